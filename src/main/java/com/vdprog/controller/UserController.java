@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @AllArgsConstructor
@@ -30,23 +31,24 @@ public class UserController {
     }
 
     @PostMapping
-    public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(userService.createUser(user));
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<User> createUser(@Valid @RequestBody User user) {
+        return userService.createUserAsync(user);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@Valid @RequestBody User updatedUser, @PathVariable Integer id) {
-        return ResponseEntity.ok(userService.updateUser(id, updatedUser));
+    public CompletableFuture<User> updateUser(@Valid @RequestBody User updatedUser, @PathVariable Integer id) {
+        return userService.updateUserAsync(id, updatedUser);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<User> patchUser(@RequestBody User updatedUser, @PathVariable Integer id) {
-        return ResponseEntity.ok(userService.patchUser(id, updatedUser));
+    public CompletableFuture<User> patchUser(@RequestBody User updatedUser, @PathVariable Integer id) {
+        return userService.patchUserAsync(id, updatedUser);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteUser(@PathVariable Integer id) {
-        return ResponseEntity.ok(userService.deleteUser(id));
+    public CompletableFuture<String> deleteUser(@PathVariable Integer id) {
+        return userService.deleteUserAsync(id);
     }
 
     @GetMapping("/search")
@@ -0,0 +1,18 @@
+package com.vdprog.exception;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Wraps the cause of a failed write future. CompletableFuture passes a CompletionException through
+ * dependent stages and join() as is, while any other cause gets a new wrapper with a full stack trace.
+ */
+public class StacklessCompletionException extends CompletionException {
+    public StacklessCompletionException(Throwable cause) {
+        super(cause);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,7 @@
+package com.vdprog.exception;
+
+public class UserWriteRejectedException extends RuntimeException {
+    public UserWriteRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
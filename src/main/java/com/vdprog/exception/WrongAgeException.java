@@ -2,6 +2,6 @@ package com.vdprog.exception;
 
 public class WrongAgeException extends RuntimeException{
     public WrongAgeException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -2,6 +2,6 @@ package com.vdprog.exception;
 
 public class WrongDateRangeException extends RuntimeException {
     public WrongDateRangeException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
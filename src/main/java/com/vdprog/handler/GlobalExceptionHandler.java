@@ -1,42 +1,71 @@
 package com.vdprog.handler;
 
 import com.vdprog.exception.UserNotFoundException;
+import com.vdprog.exception.UserWriteRejectedException;
 import com.vdprog.exception.WrongAgeException;
+import com.vdprog.exception.WrongDateRangeException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @RestControllerAdvice
 @Slf4j
-public class GlobalExceptionHandler {
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<String> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    @Override
+    protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
+                                                                  HttpHeaders headers,
+                                                                  HttpStatusCode status,
+                                                                  WebRequest request) {
         log.info(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(ex.getBindingResult().getFieldError().getDefaultMessage());
+        FieldError fieldError = ex.getBindingResult().getFieldError();
+        if (fieldError != null) {
+            ex.getBody().setDetail(fieldError.getDefaultMessage());
+        }
+        return super.handleMethodArgumentNotValid(ex, headers, status, request);
     }
 
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<String> UserNotFoundException(UserNotFoundException ex) {
+    public ResponseEntity<ProblemDetail> UserNotFoundException(UserNotFoundException ex) {
         log.info(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(WrongAgeException.class)
-    public ResponseEntity<String> WrongAgeException(WrongAgeException ex) {
+    public ResponseEntity<ProblemDetail> WrongAgeException(WrongAgeException ex) {
         log.info(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(WrongDateRangeException.class)
+    public ResponseEntity<ProblemDetail> WrongDateRangeException(WrongDateRangeException ex) {
+        log.info(ex.getMessage());
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(UserWriteRejectedException.class)
+    public ResponseEntity<ProblemDetail> UserWriteRejectedException(UserWriteRejectedException ex) {
+        log.warn(ex.getMessage());
+        return problem(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
 
     @ExceptionHandler(ConstraintViolationException.class)
-    public ResponseEntity<String> ConstraintViolationException(ConstraintViolationException ex) {
+    public ResponseEntity<ProblemDetail> ConstraintViolationException(ConstraintViolationException ex) {
         log.info(ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String detail) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
     }
-}
\ No newline at end of file
+}
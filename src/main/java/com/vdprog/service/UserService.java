@@ -4,6 +4,7 @@ import com.vdprog.model.User;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
 
@@ -14,4 +15,9 @@ public interface UserService {
     User patchUser(Integer id, User updatedUser);
     String deleteUser(Integer id);
     List<User> searchUsersByBirthDateRange(LocalDate from, LocalDate to);
-}
\ No newline at end of file
+
+    CompletableFuture<User> createUserAsync(User user);
+    CompletableFuture<User> updateUserAsync(Integer id, User updatedUser);
+    CompletableFuture<User> patchUserAsync(Integer id, User updatedUser);
+    CompletableFuture<String> deleteUserAsync(Integer id);
+}
@@ -1,5 +1,6 @@
 package com.vdprog.service;
 
+import com.vdprog.exception.StacklessCompletionException;
 import com.vdprog.exception.UserNotFoundException;
 import com.vdprog.exception.WrongAgeException;
 import com.vdprog.exception.WrongDateRangeException;
@@ -14,8 +15,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -24,13 +26,22 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    // only touched by mutations, which all run on the pipeline's writer thread
     private static Integer nextId = 1;
 
     public void setUsers(List<User> users) {
-        this.users = users;
+        if (users.stream().anyMatch(user -> user.getId() == null)) {
+            throw new IllegalArgumentException("Users must have an id");
+        }
+        await(pipeline.submit(store -> {
+            store.clear();
+            users.forEach(user -> store.put(user.getId(), user));
+            return null;
+        }));
     }
 
-    private List<User> users = new ArrayList<>();
+    @Autowired
+    UserWritePipeline pipeline;
     @Autowired
     Validator validator;
     @Value("${minimumAge}")
@@ -38,91 +49,107 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<User> getAll() {
-        return users;
+        return pipeline.users();
     }
 
     @Override
     public User getUserById(Integer id) {
-        Optional<User> user = users.stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst();
+        Optional<User> user = Optional.ofNullable(pipeline.findById(id));
         return user.orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
     }
 
     @Override
     public User createUser(User user) {
-        log.info("creating new user");
-        if (LocalDate.now().minusYears(user.getBirthDate().getYear()).getYear() < minimumAge) {
-            throw new WrongAgeException("Users must be at least 18 years old");
-        }
-        user.setId(nextId++);
-        users.add(user);
-        return user;
+        return await(createUserAsync(user));
     }
 
     @Override
     public User updateUser(Integer id, User updatedUser) {
-        log.info("Start updating user with id {}", id);
-        User user = users.stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        return await(updateUserAsync(id, updatedUser));
+    }
+
+    @Override
+    public User patchUser(Integer id, User updatedUser) {
+        return await(patchUserAsync(id, updatedUser));
+    }
 
-        int index = users.indexOf(user);
+    @Override
+    public String deleteUser(Integer id) {
+        return await(deleteUserAsync(id));
+    }
 
+    @Override
+    public CompletableFuture<User> createUserAsync(User user) {
+        log.info("creating new user");
         if (LocalDate.now().minusYears(user.getBirthDate().getYear()).getYear() < minimumAge) {
-            throw new WrongAgeException("Users must be at least 18 years old");
+            return CompletableFuture.failedFuture(
+                    new StacklessCompletionException(new WrongAgeException("Users must be at least 18 years old")));
         }
+        return pipeline.submit(users -> {
+            user.setId(nextId++);
+            users.put(user.getId(), user);
+            return user;
+        });
+    }
+
+    @Override
+    public CompletableFuture<User> updateUserAsync(Integer id, User updatedUser) {
+        log.info("Start updating user with id {}", id);
+        return pipeline.submit(users -> {
+            User user = Optional.ofNullable(users.get(id))
+                    .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
 
-        updatedUser.setId(user.getId());
-        users.set(index, updatedUser);
-        log.info("User id {} updated successfully", id);
-        return updatedUser;
+            if (LocalDate.now().minusYears(user.getBirthDate().getYear()).getYear() < minimumAge) {
+                throw new WrongAgeException("Users must be at least 18 years old");
+            }
+
+            updatedUser.setId(user.getId());
+            users.put(id, updatedUser);
+            return updatedUser;
+        }, user -> log.info("User id {} updated successfully", id));
     }
 
     @Override
-    public User patchUser(Integer id, User updatedUser) {
+    public CompletableFuture<User> patchUserAsync(Integer id, User updatedUser) {
         log.info("Patching user id {} ", id);
-        User user = users.stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-
-        int index = users.indexOf(user);
-
-        User preparedUser = new User(user);
-
-        if (updatedUser.getEmail() != null) {
-            preparedUser.setEmail(updatedUser.getEmail()); }
-        if (updatedUser.getFirstName() != null) {
-            preparedUser.setFirstName(updatedUser.getFirstName());}
-        if (updatedUser.getLastName() != null) {
-            preparedUser.setLastName(updatedUser.getLastName());}
-        if (updatedUser.getBirthDate() != null) {
-            if (LocalDate.now().minusYears(updatedUser.getBirthDate().getYear()).getYear() < minimumAge) {
-                throw new WrongAgeException("Users must be at least 18 years old");
+        return pipeline.submit(users -> {
+            User user = Optional.ofNullable(users.get(id))
+                    .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+
+            User preparedUser = new User(user);
+
+            if (updatedUser.getEmail() != null) {
+                preparedUser.setEmail(updatedUser.getEmail()); }
+            if (updatedUser.getFirstName() != null) {
+                preparedUser.setFirstName(updatedUser.getFirstName());}
+            if (updatedUser.getLastName() != null) {
+                preparedUser.setLastName(updatedUser.getLastName());}
+            if (updatedUser.getBirthDate() != null) {
+                if (LocalDate.now().minusYears(updatedUser.getBirthDate().getYear()).getYear() < minimumAge) {
+                    throw new WrongAgeException("Users must be at least 18 years old");
+                }
+                preparedUser.setBirthDate(updatedUser.getBirthDate());}
+            if (updatedUser.getAddress() != null) {
+                preparedUser.setAddress(updatedUser.getAddress());}
+            if (updatedUser.getPhoneNumber() != null) {
+                preparedUser.setPhoneNumber(updatedUser.getPhoneNumber());}
+
+            Set<ConstraintViolation<User>> violations = validator.validate(preparedUser);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
             }
-            preparedUser.setBirthDate(updatedUser.getBirthDate());}
-        if (updatedUser.getAddress() != null) {
-            preparedUser.setAddress(updatedUser.getAddress());}
-        if (updatedUser.getPhoneNumber() != null) {
-            preparedUser.setPhoneNumber(updatedUser.getPhoneNumber());}
-
-        Set<ConstraintViolation<User>> violations = validator.validate(preparedUser);
-        if (!violations.isEmpty()) {
-            throw new ConstraintViolationException(violations);
-        }
-        users.set(index, preparedUser);
-        log.info("User with id {} patched successfully", id);
-        return preparedUser;
+            users.put(id, preparedUser);
+            return preparedUser;
+        }, user -> log.info("User with id {} patched successfully", id));
     }
 
     @Override
-    public String deleteUser(Integer id) {
+    public CompletableFuture<String> deleteUserAsync(Integer id) {
         log.info("Start process deleting user with id {}", id);
-        if (!users.removeIf(user -> user.getId().equals(id))) throw new UserNotFoundException("User not found with id: " + id);
-        log.info("Deleted successfully");
-        return "User deleted successfully.";
+        return pipeline.submit(users -> {
+            if (users.remove(id) == null) throw new UserNotFoundException("User not found with id: " + id);
+            return "User deleted successfully.";
+        }, message -> log.info("Deleted successfully"));
     }
 
     @Override
@@ -134,10 +161,21 @@ public class UserServiceImpl implements UserService {
             throw new WrongDateRangeException("Swap the dates. First must be less than equal to second date");
         }
 
-        return users.stream()
+        return pipeline.users().stream()
                 .filter(user -> (user.getBirthDate().isAfter(from) && user.getBirthDate().isBefore(to)))
                 .sorted(Comparator.comparing(User::getBirthDate))
                 .collect(Collectors.toList());
     }
 
-}
\ No newline at end of file
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.vdprog.service;
+
+import com.vdprog.exception.StacklessCompletionException;
+import com.vdprog.exception.UserWriteRejectedException;
+import com.vdprog.model.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-writer store for users. Mutations are queued from any thread and applied
+ * in batches by one writer thread to an id-ordered concurrent map, so a write costs
+ * O(log n) and readers never take a lock. Each mutation becomes visible to readers as
+ * soon as it is applied, which can be before the future of its caller completes.
+ * Futures are completed on a separate executor so that the writer only touches the map.
+ */
+@Component
+@Slf4j
+public class UserWritePipeline {
+
+    @Value("${userWriteQueueCapacity}")
+    private Integer queueCapacity;
+    @Value("${userWriteBatchSize}")
+    private Integer batchSize;
+    @Value("${userWriteOfferTimeoutMillis}")
+    private Long offerTimeoutMillis;
+    @Value("${userWriteCompletionThreads}")
+    private Integer completionThreads;
+
+    private BlockingQueue<Command<?>> queue;
+    private ExecutorService completionExecutor;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final ConcurrentNavigableMap<Integer, User> store = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger completionThreadNumber = new AtomicInteger();
+        completionExecutor = Executors.newFixedThreadPool(completionThreads, task -> {
+            Thread thread = new Thread(task, "user-write-completion-" + completionThreadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        writer = new Thread(this::run, "user-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join();
+        failPending();
+        completionExecutor.shutdown();
+    }
+
+    public List<User> users() {
+        return List.copyOf(store.values());
+    }
+
+    public User findById(Integer id) {
+        return id == null ? null : store.get(id);
+    }
+
+    /**
+     * Queues a mutation of the id-keyed store. The mutation runs on the writer thread and
+     * must validate before it modifies the map: a mutation that throws fails only its own
+     * future and has to leave the store untouched. When the queue stays full for longer
+     * than the offer timeout, the returned future fails with {@link UserWriteRejectedException}.
+     * Failures are wrapped in a {@link StacklessCompletionException}.
+     */
+    public <T> CompletableFuture<T> submit(Function<Map<Integer, User>, T> mutation) {
+        return submit(mutation, result -> { });
+    }
+
+    /**
+     * Same as {@link #submit(Function)}, and runs {@code onApplied} with the result of a successful
+     * mutation on the completion executor before the future completes.
+     */
+    public <T> CompletableFuture<T> submit(Function<Map<Integer, User>, T> mutation, Consumer<T> onApplied) {
+        Command<T> command = new Command<>(mutation, onApplied);
+        if (!running) {
+            command.fail(new UserWriteRejectedException("User write pipeline is stopped"));
+            return command.future;
+        }
+        try {
+            if (!queue.offer(command, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                command.fail(new UserWriteRejectedException("Too many pending user writes"));
+                return command.future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            command.fail(e);
+            return command.future;
+        }
+        if (!running) {
+            // stop() may already have drained the queue, nobody else will complete this command
+            failPending();
+        }
+        return command.future;
+    }
+
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                applyBatch(batch);
+            } catch (Throwable e) {
+                log.error("Failed to apply batch of {} user mutations", batch.size(), e);
+                batch.forEach(command -> command.failure = e);
+                completeAll(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyBatch(List<Command<?>> batch) {
+        batch.forEach(command -> command.apply(store));
+        log.debug("Applied batch of {} user mutations", batch.size());
+        completeAll(batch);
+    }
+
+    private void completeAll(List<Command<?>> batch) {
+        for (Command<?> command : batch) {
+            try {
+                completionExecutor.execute(command::complete);
+            } catch (RejectedExecutionException e) {
+                command.complete();
+            }
+        }
+    }
+
+    private void failPending() {
+        List<Command<?>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(command -> command.fail(new UserWriteRejectedException("User write pipeline is stopped")));
+    }
+
+    private static final class Command<T> {
+        private final Function<Map<Integer, User>, T> mutation;
+        private final Consumer<T> onApplied;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable failure;
+
+        private Command(Function<Map<Integer, User>, T> mutation, Consumer<T> onApplied) {
+            this.mutation = mutation;
+            this.onApplied = onApplied;
+        }
+
+        private void apply(Map<Integer, User> users) {
+            try {
+                result = mutation.apply(users);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        private void complete() {
+            if (failure != null) {
+                fail(failure);
+                return;
+            }
+            try {
+                onApplied.accept(result);
+            } finally {
+                future.complete(result);
+            }
+        }
+
+        private void fail(Throwable e) {
+            future.completeExceptionally(e instanceof CompletionException ? e : new StacklessCompletionException(e));
+        }
+    }
+}
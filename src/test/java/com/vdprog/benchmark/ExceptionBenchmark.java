@@ -0,0 +1,89 @@
+package com.vdprog.benchmark;
+
+import com.vdprog.exception.StacklessCompletionException;
+import com.vdprog.exception.UserNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of throwing and catching the 404 exception, stackless vs. one that fills in its stack trace.
+ * The throw happens {@code depth} frames below the catch to stand in for the servlet and Spring MVC frames.
+ * The async benchmarks fail a write future that has a dependent stage attached, as Spring MVC does for a
+ * CompletableFuture return value, with the bare cause vs. the cause wrapped in a StacklessCompletionException.
+ * Run with {@code mvn test-compile} and then {@link #main} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExceptionBenchmark {
+
+    @Param({"10", "100"})
+    private int depth;
+
+    private int id = 100;
+
+    @Benchmark
+    public String stackless() {
+        try {
+            return throwAt(depth, false);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String stackful() {
+        try {
+            return throwAt(depth, true);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public Throwable asyncBareCause() {
+        return failAt(depth, false);
+    }
+
+    @Benchmark
+    public Throwable asyncStacklessWrapper() {
+        return failAt(depth, true);
+    }
+
+    private Throwable failAt(int remaining, boolean wrap) {
+        if (remaining > 0) {
+            return failAt(remaining - 1, wrap);
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> dependent = future.whenComplete((value, ex) -> { });
+        UserNotFoundException cause = new UserNotFoundException("User not found with id: " + id);
+        future.completeExceptionally(wrap ? new StacklessCompletionException(cause) : cause);
+        return dependent.handle((value, ex) -> ex).getNow(null);
+    }
+
+    private String throwAt(int remaining, boolean withStackTrace) {
+        if (remaining > 0) {
+            return throwAt(remaining - 1, withStackTrace);
+        }
+        String message = "User not found with id: " + id;
+        throw withStackTrace ? new StackfulUserNotFoundException(message) : new UserNotFoundException(message);
+    }
+
+    private static class StackfulUserNotFoundException extends RuntimeException {
+        StackfulUserNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExceptionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
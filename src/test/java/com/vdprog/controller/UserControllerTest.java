@@ -1,10 +1,13 @@
 package com.vdprog.controller;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vdprog.exception.StacklessCompletionException;
 import com.vdprog.exception.UserNotFoundException;
 import com.vdprog.exception.WrongAgeException;
+import com.vdprog.exception.WrongDateRangeException;
 import com.vdprog.model.User;
 import com.vdprog.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,8 @@ import org.springframework.http.MediaType;
 
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -58,9 +63,9 @@ public class UserControllerTest {
 
         String json = objectMapper.writeValueAsString(expectedUser);
 
-        when(userService.createUser(any(User.class))).thenReturn(expectedUser);
+        when(userService.createUserAsync(any(User.class))).thenReturn(CompletableFuture.completedFuture(expectedUser));
 
-        MvcResult mvcResult = mockMvc.perform(post(USER_API_PATTERN)
+        MvcResult mvcResult = performAsync(post(USER_API_PATTERN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isCreated())
@@ -80,7 +85,22 @@ public class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{}")
                 )
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").isNotEmpty());
+    }
+
+    @Test
+    void testCreateUserValidationDetail() throws Exception {
+        User user = createTestUser();
+        user.setEmail("");
+
+        mockMvc.perform(post(USER_API_PATTERN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Email cannot be blank"));
     }
 
     @Test
@@ -88,35 +108,35 @@ public class UserControllerTest {
         User expectedUser = createTestUser();
         String json = objectMapper.writeValueAsString(expectedUser);
 
-        when(userService.createUser(any(User.class))).thenThrow(new WrongAgeException(
-                String.format("Users must be at least {} years old", MIN_AGE)));
+        when(userService.createUserAsync(any(User.class))).thenReturn(CompletableFuture.failedFuture(new WrongAgeException(
+                String.format("Users must be at least {} years old", MIN_AGE))));
 
-        mockMvc.perform(post(USER_API_PATTERN)
+        performAsync(post(USER_API_PATTERN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(String.format("Users must be at least {} years old", MIN_AGE)));
+                .andExpect(jsonPath("$.detail").value(String.format("Users must be at least {} years old", MIN_AGE)));
     }
 
     @Test
     public void testDeleteSuccess()throws Exception {
-        when(userService.deleteUser(ID)).thenReturn("User deleted successfully.");
+        when(userService.deleteUserAsync(ID)).thenReturn(CompletableFuture.completedFuture("User deleted successfully."));
 
-        mockMvc.perform(delete(USER_API_PATTERN + DELIMITER + ID))
+        performAsync(delete(USER_API_PATTERN + DELIMITER + ID))
                 .andExpect(status().isOk())
                 .andExpect(content().string("User deleted successfully."));
 
-        verify(userService, times(1)).deleteUser(anyInt());
+        verify(userService, times(1)).deleteUserAsync(anyInt());
     }
 
     @Test
     void testDeleteUserNotFound() throws Exception {
-        when(userService.deleteUser(ID)).thenThrow(
-                new UserNotFoundException(String.format("User not found with id: {}", ID)));
+        when(userService.deleteUserAsync(ID)).thenReturn(CompletableFuture.failedFuture(new StacklessCompletionException(
+                new UserNotFoundException(String.format("User not found with id: {}", ID)))));
 
-        mockMvc.perform(delete(USER_API_PATTERN + DELIMITER + ID))
+        performAsync(delete(USER_API_PATTERN + DELIMITER + ID))
                 .andExpect(status().isNotFound())
-                .andExpect(content().string(String.format("User not found with id: {}", ID)));
+                .andExpect(jsonPath("$.detail").value(String.format("User not found with id: {}", ID)));
     }
 
     @Test
@@ -134,15 +154,29 @@ public class UserControllerTest {
 
     }
 
+    @Test
+    public void testSearchUsersByBirthDateRangeWrongDateRangeException() throws Exception {
+        when(userService.searchUsersByBirthDateRange(TO_DATE, FROM_DATE)).thenThrow(
+                new WrongDateRangeException("Swap the dates. First must be less than equal to second date"));
+
+        mockMvc.perform(get(USER_API_PATTERN + SEARCH_API)
+                        .param("from", TO_DATE.toString())
+                        .param("to", FROM_DATE.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.detail").value("Swap the dates. First must be less than equal to second date"));
+    }
+
     @Test
     public void testUpdateUserSuccess() throws Exception {
         User updatedUser = createTestUser();
 
-        when(userService.updateUser(ID, updatedUser)).thenReturn(updatedUser);
+        when(userService.updateUserAsync(ID, updatedUser)).thenReturn(CompletableFuture.completedFuture(updatedUser));
 
         String json = objectMapper.writeValueAsString(updatedUser);
 
-        mockMvc.perform(put(USER_API_PATTERN + DELIMITER + ID)
+        performAsync(put(USER_API_PATTERN + DELIMITER + ID)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isOk())
@@ -160,14 +194,21 @@ public class UserControllerTest {
 
         String json = objectMapper.writeValueAsString(updateUser);
 
-        when(userService.updateUser(ID, updateUser)).thenThrow(
-                new UserNotFoundException(String.format("User not found with id: {}", ID)));
+        when(userService.updateUserAsync(ID, updateUser)).thenReturn(CompletableFuture.failedFuture(
+                new UserNotFoundException(String.format("User not found with id: {}", ID))));
 
-        mockMvc.perform(put(USER_API_PATTERN + DELIMITER + ID)
+        performAsync(put(USER_API_PATTERN + DELIMITER + ID)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isNotFound())
-                .andExpect(content().string(String.format("User not found with id: {}", ID)));
+                .andExpect(jsonPath("$.detail").value(String.format("User not found with id: {}", ID)));
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
     }
 
     private User createTestUser() {
@@ -7,6 +7,7 @@ import com.vdprog.exception.WrongAgeException;
 import com.vdprog.exception.WrongDateRangeException;
 import com.vdprog.model.User;
 import com.vdprog.service.UserServiceImpl;
+import com.vdprog.service.UserWritePipeline;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,12 +19,19 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
 public class UserServiceImplTest {
     @Autowired
     private UserServiceImpl userService;
+    @Autowired
+    private UserWritePipeline pipeline;
 
     @Value("${minimumAge}")
     private Integer minimumAge;
@@ -40,6 +48,12 @@ public class UserServiceImplTest {
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(100));
     }
 
+    @Test
+    public void testUserNotFoundExceptionIsStackless() {
+        UserNotFoundException ex = assertThrows(UserNotFoundException.class, () -> userService.getUserById(100));
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
     @Test
     void testCreateUserSuccess() {
         LocalDate allowedAge = LocalDate.now().minusYears(minimumAge);
@@ -55,6 +69,95 @@ public class UserServiceImplTest {
         assertThrows(WrongAgeException.class, () -> userService.createUser(user));
     }
 
+    @Test
+    void testCreateUserAsyncConcurrentWrites() {
+        List<CompletableFuture<User>> futures = IntStream.range(0, 200)
+                .parallel()
+                .mapToObj(i -> userService.createUserAsync(createTestUser()))
+                .collect(Collectors.toList());
+
+        List<User> created = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+        assertEquals(created.size(), created.stream().map(User::getId).distinct().count());
+        assertTrue(userService.getAll().containsAll(created));
+
+        created.forEach(user -> userService.deleteUser(user.getId()));
+    }
+
+    @Test
+    void testFailedMutationFailsOnlyItsOwnFuture() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocker = pipeline.submit(store -> {
+            writerBlocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        writerBlocked.await();
+
+        // queued while the writer is busy, so all three are applied in the same batch
+        CompletableFuture<User> first = userService.createUserAsync(createTestUser());
+        CompletableFuture<String> missing = userService.deleteUserAsync(-1);
+        CompletableFuture<User> second = userService.createUserAsync(createTestUser());
+        release.countDown();
+        blocker.join();
+
+        CompletionException ex = assertThrows(CompletionException.class, missing::join);
+        assertInstanceOf(UserNotFoundException.class, ex.getCause());
+        assertEquals(0, ex.getStackTrace().length);
+        User firstUser = first.join();
+        User secondUser = second.join();
+
+        List<User> all = userService.getAll();
+        assertTrue(all.contains(firstUser));
+        assertTrue(all.contains(secondUser));
+        assertEquals(secondUser.getId(), firstUser.getId() + 1);
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(-1));
+    }
+
+    @Test
+    void testDependentStageDoesNotRunOnWriter() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocker = pipeline.submit(store -> {
+            writerBlocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        writerBlocked.await();
+
+        // attached while the write is still queued, so it runs on whichever thread completes the future
+        CompletableFuture<User> created = userService.createUserAsync(createTestUser());
+        CompletableFuture<String> stageThread = created.thenApply(user -> Thread.currentThread().getName());
+        release.countDown();
+        blocker.join();
+
+        assertNotEquals("user-writer", stageThread.join());
+        assertTrue(stageThread.join().startsWith("user-write-completion-"));
+        userService.deleteUser(created.join().getId());
+    }
+
+    @Test
+    void testReadAfterAsyncWriteSeesWrite() {
+        User created = userService.createUserAsync(createTestUser()).join();
+
+        assertEquals(created, userService.getUserById(created.getId()));
+        assertTrue(userService.getAll().contains(created));
+
+        userService.deleteUserAsync(created.getId()).join();
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(created.getId()));
+        assertFalse(userService.getAll().contains(created));
+    }
+
     @Test
     void testUpdateUserSuccess() {
         User createdUser = userService.createUser(createTestUser());